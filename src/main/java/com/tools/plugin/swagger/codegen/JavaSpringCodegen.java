@@ -1,6 +1,8 @@
 package com.tools.plugin.swagger.codegen;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.google.common.base.CaseFormat;
 import com.google.common.collect.Sets;
@@ -8,18 +10,28 @@ import com.tools.plugin.swagger.SwaggerInlineModelResolver;
 import io.swagger.codegen.CliOption;
 import io.swagger.codegen.CodegenModel;
 import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.CodegenParameter;
+import io.swagger.codegen.CodegenProperty;
+import io.swagger.codegen.CodegenResponse;
 import io.swagger.codegen.SupportingFile;
 import io.swagger.codegen.languages.SpringCodegen;
 import io.swagger.models.*;
 import io.swagger.models.parameters.BodyParameter;
+import io.swagger.models.parameters.QueryParameter;
 import io.swagger.models.properties.ArrayProperty;
 import io.swagger.models.properties.MapProperty;
 import io.swagger.models.properties.ObjectProperty;
 import io.swagger.models.properties.Property;
+import io.swagger.models.properties.StringProperty;
+import io.swagger.util.Json;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.net.URLEncoder;
 import java.util.*;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import static com.google.common.collect.Sets.difference;
@@ -29,14 +41,45 @@ public class JavaSpringCodegen extends SpringCodegen {
     private static final String MODEL_NAME_PROP_MAP = "modelNamePropMap";
     private static final String MODEL_NAME_PROP_MAP_EXCEPTION_MESSAGE = "Prop map is not a valid file.";
     private static final String MODEL_NAME_PROP_MAP_NOT_EXISTS_MESSAGE = "Prop map file does not exists.";
+    private static final String GENERATE_BENCHMARKS = "generateBenchmarks";
+    private static final String BENCHMARK_FOLDER = "benchmarkFolder";
+    private static final String SAMPLE_VALUE_EXTENSION = "x-sample-value";
+    private static final String FIELD_PROJECTION = "fieldProjection";
+    private static final String FIELD_PROJECTION_EXTENSION = "x-field-projection";
+    private static final String FIELDS_PARAMETER = "fields";
+    private static final String BATCHABLE_EXTENSION = "x-batchable";
+    private static final String BATCH_MAX_SIZE = "batchMaxSize";
+    private static final int DEFAULT_BATCH_MAX_SIZE = 100;
+    private static final String BATCH_ITEM_RESULT = "BatchItemResult";
+    private static final String GENERATE_LOAD_TEST = "generateLoadTest";
+    private static final String LOAD_TEST_STUB = "loadTestStub";
+    private static final String LOAD_TEST_FOLDER = "loadTestFolder";
+    private static final String LOAD_TEST_EXTENSION = "x-load-test";
+    private static final String INTERN_EXTENSION = "x-intern";
 
     private Map<String, List<String>> ignoredIndexDefinitions = new HashMap<>();
+    private Set<String> modelNames = new HashSet<>();
 
     public JavaSpringCodegen() {
         this.projectFolder = "";
         this.sourceFolder = "";
         embeddedTemplateDir = templateDir = "toolkit-java-spring";
         cliOptions.add(new CliOption(MODEL_NAME_PROP_MAP, "Location of the external property map"));
+        cliOptions.add(CliOption.newBoolean(GENERATE_BENCHMARKS,
+                "Generate a JMH serialization benchmark for every model"));
+        cliOptions.add(new CliOption(BENCHMARK_FOLDER, "Folder receiving the benchmark sources, relative to the output"
+                + " folder. Defaults to a sibling <output folder>-jmh so the benchmarks stay out of the main sources"));
+        cliOptions.add(CliOption.newBoolean(FIELD_PROJECTION, "Generate field-mask projection writers for every model"
+                + " and a fields query parameter on operations marked with " + FIELD_PROJECTION_EXTENSION));
+        cliOptions.add(new CliOption(BATCH_MAX_SIZE, "Default maximum number of items accepted by the batch"
+                + " companion of operations marked with " + BATCHABLE_EXTENSION).defaultValue(
+                        String.valueOf(DEFAULT_BATCH_MAX_SIZE)));
+        cliOptions.add(CliOption.newBoolean(GENERATE_LOAD_TEST,
+                "Generate an open-loop load generator calling every operation of the spec"));
+        cliOptions.add(CliOption.newBoolean(LOAD_TEST_STUB,
+                "Also generate a local stub server answering every operation with sample payloads"));
+        cliOptions.add(new CliOption(LOAD_TEST_FOLDER, "Folder receiving the load test sources, relative to the output"
+                + " folder. Defaults to a sibling <output folder>-loadtest so the harness stays out of the main sources"));
     }
 
     public String getName() {
@@ -47,11 +90,115 @@ public class JavaSpringCodegen extends SpringCodegen {
         super.processOpts();
         this.supportingFiles.remove(new SupportingFile("README.mustache", "", "README.md"));
         this.supportingFiles.remove(new SupportingFile("pom.mustache", "", "pom.xml"));
+
+        String modelFolder = packageFolder(modelPackage);
+        if (isEnabled(GENERATE_BENCHMARKS)) {
+            addSupportingFile(new SupportingFile("modelBenchmarks.mustache", benchmarkFolder(), "ModelBenchmarks.java"));
+            addSupportingFile(
+                    new SupportingFile("benchmarkSupport.mustache", benchmarkFolder(), "BenchmarkSupport.java"));
+        }
+
+        if (isEnabled(GENERATE_LOAD_TEST)) {
+            String loadTestFolder = toolFolder(LOAD_TEST_FOLDER, "loadtest", apiPackage + ".loadtest");
+            addSupportingFile(new SupportingFile("loadTestHarness.mustache", loadTestFolder, "LoadTestHarness.java"));
+            additionalProperties.put(LOAD_TEST_STUB, isEnabled(LOAD_TEST_STUB));
+            if (isEnabled(LOAD_TEST_STUB)) {
+                addSupportingFile(new SupportingFile("loadTestStub.mustache", loadTestFolder, "LoadTestStub.java"));
+            }
+        }
+
+        if (isEnabled(FIELD_PROJECTION)) {
+            String apiFolder = packageFolder(apiPackage);
+            addSupportingFile(new SupportingFile("modelProjections.mustache", modelFolder, "ModelProjections.java"));
+            addSupportingFile(new SupportingFile("fieldProjection.mustache", apiFolder, "FieldProjection.java"));
+            addSupportingFile(
+                    new SupportingFile("fieldProjectionAdvice.mustache", apiFolder, "FieldProjectionAdvice.java"));
+            addSupportingFile(new SupportingFile("projectedBody.mustache", apiFolder, "ProjectedBody.java"));
+        }
+    }
+
+    private void addSupportingFile(SupportingFile supportingFile) {
+        if (!supportingFiles.contains(supportingFile)) {
+            supportingFiles.add(supportingFile);
+        }
+    }
+
+    private boolean needsModelSamples() {
+        return isEnabled(GENERATE_BENCHMARKS) || isEnabled(GENERATE_LOAD_TEST);
+    }
+
+    private boolean isEnabled(String option) {
+        return additionalProperties.containsKey(option)
+                && Boolean.valueOf(additionalProperties.get(option).toString());
+    }
+
+    private String packageFolder(String packageName) {
+        String folder = packageName.replace(".", File.separator);
+        return sourceFolder.isEmpty() ? folder : sourceFolder + File.separator + folder;
+    }
+
+    /**
+     * Folder of generated tooling sources that must not end up in the main source set. Supporting files are always
+     * relative to the output folder, so the default sibling folder is reached through its parent.
+     */
+    /* package */ String toolFolder(String option, String defaultSuffix, String packageName) {
+        String folder = (String) additionalProperties.get(option);
+        if (folder == null) {
+            // relative output folders such as "." or "gen/.." only have a usable name once resolved
+            String outputName;
+            try {
+                outputName = new File(outputFolder).getCanonicalFile().getName();
+            } catch (IOException exception) {
+                throw new IllegalArgumentException("Unable to resolve output folder " + outputFolder + ", set "
+                        + option, exception);
+            }
+            if (outputName.isEmpty()) {
+                throw new IllegalArgumentException("Output folder " + outputFolder + " has no sibling folder, set "
+                        + option);
+            }
+            folder = ".." + File.separator + outputName + "-" + defaultSuffix;
+        }
+
+        return folder + File.separator + packageName.replace(".", File.separator);
+    }
+
+    private String benchmarkFolder() {
+        return toolFolder(BENCHMARK_FOLDER, "jmh", modelPackage + ".benchmark");
+    }
+
+    private String qualifiedModelName(String name) {
+        return modelPackage.isEmpty() ? name : modelPackage + "." + name;
     }
 
     @Override
     public void preprocessSwagger(Swagger swagger) {
         super.preprocessSwagger(swagger);
+
+        flattenSwaggerModel(swagger);
+
+        if (isEnabled(FIELD_PROJECTION)) {
+            addFieldsParameters(swagger);
+        }
+
+        if (hasBatchableOperations(swagger)) {
+            addSupportingFile(new SupportingFile("batchItemResult.mustache", packageFolder(modelPackage),
+                    BATCH_ITEM_RESULT + ".java"));
+            addSupportingFile(new SupportingFile("batchValidationAdvice.mustache", packageFolder(apiPackage),
+                    "BatchValidationAdvice.java"));
+        }
+    }
+
+    private boolean hasBatchableOperations(Swagger swagger) {
+        return swagger.getPaths().values().stream().flatMap(path -> path.getOperations().stream())
+                .anyMatch(operation -> isBatchable(operation.getVendorExtensions()));
+    }
+
+    private boolean isBatchable(Map<String, Object> vendorExtensions) {
+        Object batchable = vendorExtensions.get(BATCHABLE_EXTENSION);
+        return batchable != null && !Boolean.FALSE.equals(batchable);
+    }
+
+    private void flattenSwaggerModel(Swagger swagger) {
         for (Path path : swagger.getPaths().values()) {
             if (hasImplicitHead(path)) {
                 path.setHead(null);
@@ -65,6 +212,29 @@ public class JavaSpringCodegen extends SpringCodegen {
         new SwaggerInlineModelResolver(swagger).flattenSwagger();
     }
 
+    /* package */ void addFieldsParameters(Swagger swagger) {
+        for (Path path : swagger.getPaths().values()) {
+            for (Operation operation : path.getOperations()) {
+                if (!Boolean.TRUE.equals(operation.getVendorExtensions().get(FIELD_PROJECTION_EXTENSION))) {
+                    continue;
+                }
+                boolean hasFieldsParameter = operation.getParameters().stream()
+                        .anyMatch(parameter -> parameter instanceof QueryParameter
+                                && FIELDS_PARAMETER.equals(parameter.getName()));
+                if (!hasFieldsParameter) {
+                    QueryParameter fields = new QueryParameter();
+                    fields.setName(FIELDS_PARAMETER);
+                    fields.setDescription("Names of the fields to include in the response, all fields when absent");
+                    fields.setRequired(false);
+                    fields.setType(ArrayProperty.TYPE);
+                    fields.setItems(new StringProperty());
+                    fields.setCollectionFormat("csv");
+                    operation.addParameter(fields);
+                }
+            }
+        }
+    }
+
     private void changeInlineModelTitles(Swagger swagger) {
         String propMapFileLocation = (String) additionalProperties.get(MODEL_NAME_PROP_MAP);
         if (propMapFileLocation == null) {
@@ -234,15 +404,184 @@ public class JavaSpringCodegen extends SpringCodegen {
                     operation.operationId);
             endpoint.path = operation.path;
             endpoints.add(endpoint);
+
+            if (isBatchable(operation.vendorExtensions)) {
+                Endpoint batchEndpoint = new Endpoint();
+                batchEndpoint.operationIdUpperSnakeCase = endpoint.operationIdUpperSnakeCase + "_BATCH";
+                batchEndpoint.path = markBatchOperation(operation, batchEndpoint.operationIdUpperSnakeCase);
+                endpoints.add(batchEndpoint);
+                operations.put("hasBatchOperations", true);
+                addImport(operations, toModelImport(BATCH_ITEM_RESULT));
+            }
+
+            if (isEnabled(FIELD_PROJECTION)
+                    && Boolean.TRUE.equals(operation.vendorExtensions.get(FIELD_PROJECTION_EXTENSION))) {
+                operation.vendorExtensions.put("x-field-projection-advice", true);
+            }
+
+            if (isEnabled(GENERATE_LOAD_TEST)) {
+                if (!operation.formParams.isEmpty()) {
+                    LOGGER.warn("Leaving " + operation.operationId + " out of the load test, form parameters are not"
+                            + " supported by the load test harness");
+                } else if ("PATCH".equalsIgnoreCase(operation.httpMethod)) {
+                    LOGGER.warn("Leaving " + operation.operationId + " out of the load test, HttpURLConnection can"
+                            + " not send PATCH requests");
+                } else {
+                    operation.vendorExtensions.put(LOAD_TEST_EXTENSION, loadTestRequest(operation));
+                }
+            }
         }
 
         return operations;
     }
 
+    @SuppressWarnings("unchecked")
+    private String markBatchOperation(CodegenOperation operation, String batchIdUpperSnakeCase) {
+        Object batchable = operation.vendorExtensions.get(BATCHABLE_EXTENSION);
+        // the parser keeps object valued extensions as JSON trees
+        Map<String, Object> batchOptions = batchable instanceof Map || batchable instanceof ObjectNode
+                ? Json.mapper().convertValue(batchable, Map.class)
+                : Collections.emptyMap();
+
+        String path = batchOptions.containsKey("path") ? (String) batchOptions.get("path")
+                : batchPath(operation.path, operation.operationId);
+        Object maxSize = batchOptions.containsKey("maxSize") ? batchOptions.get("maxSize")
+                : additionalProperties.getOrDefault(BATCH_MAX_SIZE, DEFAULT_BATCH_MAX_SIZE);
+
+        operation.vendorExtensions.put("x-batch-operation", true);
+        operation.vendorExtensions.put("x-batch-path", path);
+        operation.vendorExtensions.put("x-batch-max-size", batchMaxSize(operation.operationId, maxSize));
+        operation.vendorExtensions.put("x-batch-max-size-constant", batchIdUpperSnakeCase + "_MAX_SIZE");
+        operation.vendorExtensions.put("x-batch-item-class", camelize(operation.operationId) + "BatchItem");
+        return path;
+    }
+
+    /* package */ int batchMaxSize(String operationId, Object maxSize) {
+        try {
+            int size = Integer.parseInt(maxSize.toString().trim());
+            if (size > 0) {
+                return size;
+            }
+        } catch (NumberFormatException exception) {
+            // reported below
+        }
+
+        throw new IllegalArgumentException("Batch maxSize of operation " + operationId
+                + " must be a positive integer: " + maxSize);
+    }
+
+    /**
+     * Default path of the batch companion: the operation path without its templated segments, since path variables
+     * move into the batch items, followed by {@code /batch/<operationId>} to keep companions of the same resource
+     * apart.
+     */
+    /* package */ String batchPath(String path, String operationId) {
+        String resourcePath = Arrays.stream(path.split("/"))
+                .filter(segment -> !segment.isEmpty() && !segment.contains("{"))
+                .collect(Collectors.joining("/"));
+        return (resourcePath.isEmpty() ? "" : "/" + resourcePath) + "/batch/" + operationId;
+    }
+
+    private LoadTestRequest loadTestRequest(CodegenOperation operation) {
+        LoadTestRequest request = new LoadTestRequest();
+        request.name = operation.operationId;
+        request.method = operation.httpMethod;
+
+        String path = operation.path;
+        List<String> query = new ArrayList<>();
+        for (CodegenParameter parameter : operation.allParams) {
+            if (Boolean.TRUE.equals(parameter.isPathParam)) {
+                path = path.replace("{" + parameter.baseName + "}", urlEncode(sampleValue(parameter)));
+            } else if (Boolean.TRUE.equals(parameter.isQueryParam) && Boolean.TRUE.equals(parameter.required)) {
+                query.add(urlEncode(parameter.baseName) + "=" + urlEncode(sampleValue(parameter)));
+            } else if (Boolean.TRUE.equals(parameter.isHeaderParam) && Boolean.TRUE.equals(parameter.required)) {
+                request.headers.add(new LoadTestHeader(quote(parameter.baseName), quote(sampleValue(parameter))));
+            } else if (Boolean.TRUE.equals(parameter.isBodyParam)) {
+                request.body = samplePayload(parameter.baseType, Boolean.TRUE.equals(parameter.isListContainer));
+            }
+        }
+        request.path = quote(query.isEmpty() ? path : path + "?" + String.join("&", query));
+        request.pathRegex = quote(pathRegex(operation.path));
+        request.templatedSegments = operation.path.split("\\{", -1).length - 1;
+
+        request.status = 200;
+        for (CodegenResponse response : operation.responses) {
+            if (response.code.startsWith("2")) {
+                request.status = Integer.parseInt(response.code);
+                break;
+            }
+        }
+        if (request.status != 204) {
+            request.response = samplePayload(operation.returnBaseType,
+                    "List".equals(operation.returnContainer) || "array".equals(operation.returnContainer));
+        }
+
+        return request;
+    }
+
+    private String samplePayload(String type, boolean isList) {
+        String sample = null;
+        if (modelNames.contains(type)) {
+            sample = "sample" + type + "()";
+        } else if ("String".equals(type)) {
+            sample = quote("sample");
+        }
+
+        return sample != null && isList ? "Collections.singletonList(" + sample + ")" : sample;
+    }
+
+    private String sampleValue(CodegenParameter parameter) {
+        if (parameter._enum != null && !parameter._enum.isEmpty()) {
+            return parameter._enum.get(0);
+        } else if (parameter.defaultValue != null && !"null".equals(parameter.defaultValue)) {
+            return parameter.defaultValue;
+        } else if (Boolean.TRUE.equals(parameter.isBoolean)) {
+            return "true";
+        } else if (Boolean.TRUE.equals(parameter.isString)) {
+            return "sample";
+        }
+
+        return "1";
+    }
+
+    /* package */ String pathRegex(String path) {
+        return Arrays.stream(path.split("/", -1)).map(this::segmentRegex)
+                .collect(Collectors.joining("/", "^", "$"));
+    }
+
+    private String segmentRegex(String segment) {
+        if (segment.isEmpty()) {
+            return segment;
+        }
+
+        return segment.startsWith("{") && segment.endsWith("}") ? "[^/]+" : Pattern.quote(segment);
+    }
+
+    private String urlEncode(String value) {
+        try {
+            return URLEncoder.encode(value, "UTF-8").replace("+", "%20");
+        } catch (UnsupportedEncodingException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addImport(Map<String, Object> operations, String importName) {
+        List<Map<String, String>> imports = (List<Map<String, String>>) operations.get("imports");
+        boolean imported = imports.stream().anyMatch(existing -> importName.equals(existing.get("import")));
+        if (!imported) {
+            Map<String, String> importMap = new HashMap<>();
+            importMap.put("import", importName);
+            imports.add(importMap);
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public Map<String, Object> postProcessAllModels(Map<String, Object> objects) {
         checkIndexedClasses(objects.keySet());
+        modelNames = new HashSet<>(objects.keySet());
+        boolean hasInternedVariables = false;
 
         for (Object values : objects.values()) {
             Map<String, Object> objectMap = (Map<String, Object>) values;
@@ -253,6 +592,25 @@ public class JavaSpringCodegen extends SpringCodegen {
                 CodegenModel cm = (CodegenModel) modelMap.get("model");
 
                 markVariableGeneratedStatus(objects, cm);
+                if (needsModelSamples()) {
+                    markVariableSampleValues(objects, cm);
+                }
+                if (isEnabled(FIELD_PROJECTION)) {
+                    markVariableProjectionBits(objects, cm);
+                }
+                hasInternedVariables |= markInternedVariables(cm);
+            }
+        }
+
+        if (hasInternedVariables) {
+            String modelFolder = packageFolder(modelPackage);
+            addSupportingFile(new SupportingFile("stringInternPool.mustache", modelFolder, "StringInternPool.java"));
+            addSupportingFile(new SupportingFile("internPool.mustache", modelFolder, "InternPool.java"));
+            addSupportingFile(new SupportingFile("interningStringDeserializer.mustache", modelFolder,
+                    "InterningStringDeserializer.java"));
+            if (isEnabled(GENERATE_BENCHMARKS)) {
+                addSupportingFile(
+                        new SupportingFile("internBenchmarks.mustache", benchmarkFolder(), "InternBenchmarks.java"));
             }
         }
 
@@ -271,6 +629,190 @@ public class JavaSpringCodegen extends SpringCodegen {
         cm.allVars.forEach(v -> v.vendorExtensions.put("isGenerated", objects.containsKey(v.datatype)));
     }
 
+    private void markVariableSampleValues(Map<String, Object> objects, CodegenModel cm) {
+        for (CodegenProperty var : cm.vars) {
+            String sampleValue = sampleValue(cm.classname, var, objects);
+            if (sampleValue != null) {
+                var.vendorExtensions.put(SAMPLE_VALUE_EXTENSION, sampleValue);
+            }
+        }
+    }
+
+    /**
+     * Routes string fields marked with {@code x-intern} through their own intern pool, named by the extension value
+     * or after the field when the value is {@code true}. Enums are singletons already and other types are left alone.
+     */
+    /* package */ boolean markInternedVariables(CodegenModel cm) {
+        boolean interned = false;
+        List<Map<String, Object>> internFields = new ArrayList<>();
+        for (CodegenProperty var : cm.vars) {
+            Object intern = var.vendorExtensions.get(INTERN_EXTENSION);
+            if (intern instanceof JsonNode) {
+                intern = Json.mapper().convertValue(intern, Object.class);
+            }
+            if (intern == null || Boolean.FALSE.equals(intern) || Boolean.TRUE.equals(var.isEnum)) {
+                continue;
+            }
+
+            boolean list;
+            if (Boolean.TRUE.equals(var.isString)) {
+                var.vendorExtensions.put("x-intern-deserializer", "using");
+                list = false;
+            } else if (Boolean.TRUE.equals(var.isContainer) && var.items != null
+                    && Boolean.TRUE.equals(var.items.isString) && !Boolean.TRUE.equals(var.items.isEnum)) {
+                var.vendorExtensions.put("x-intern-deserializer", "contentUsing");
+                list = Boolean.TRUE.equals(var.isListContainer);
+            } else {
+                LOGGER.warn("Ignoring " + INTERN_EXTENSION + " on " + cm.classname + "." + var.name
+                        + ", only string fields can be interned");
+                continue;
+            }
+
+            String pool = intern instanceof String && !((String) intern).trim().isEmpty() ? ((String) intern).trim()
+                    : cm.classname + "." + var.baseName;
+            // pool names come straight from the spec and end up in a string literal
+            var.vendorExtensions.put("x-intern-pool", quote(pool));
+            interned = true;
+            // map values are interned too but left out of the benchmark payloads
+            if (!Boolean.TRUE.equals(var.isMapContainer)) {
+                Map<String, Object> internField = new HashMap<>();
+                internField.put("baseName", var.baseName);
+                internField.put("list", list);
+                internFields.add(internField);
+            }
+        }
+
+        if (!internFields.isEmpty()) {
+            cm.vendorExtensions.put("x-interned", true);
+            cm.vendorExtensions.put("x-intern-fields", internFields);
+        }
+        return interned;
+    }
+
+    private void markVariableProjectionBits(Map<String, Object> objects, CodegenModel cm) {
+        for (int i = 0; i < cm.allVars.size(); i++) {
+            CodegenProperty var = cm.allVars.get(i);
+            var.vendorExtensions.put("x-projection-word", i / Long.SIZE);
+            var.vendorExtensions.put("x-projection-bit", "0x" + Long.toHexString(1L << (i % Long.SIZE)) + "L");
+            markProjectionWrite(objects, var);
+        }
+        cm.vendorExtensions.put("x-projection-words", Math.max(1, (cm.allVars.size() + Long.SIZE - 1) / Long.SIZE));
+    }
+
+    /**
+     * Picks the typed generator call the projection writer uses for the given property. Generated models are
+     * written through their own projection, anything without a dedicated call falls back to its Jackson serializer.
+     */
+    /* package */ void markProjectionWrite(Map<String, Object> objects, CodegenProperty var) {
+        CodegenProperty items = var.items;
+        if (Boolean.TRUE.equals(var.isListContainer) && items != null) {
+            if (isPlainString(items)) {
+                var.vendorExtensions.put("x-projection-strings", true);
+            } else if (isProjectedModel(objects, items.datatype)) {
+                var.vendorExtensions.put("x-projection-models", items.datatype);
+            } else {
+                var.vendorExtensions.put("x-projection-default", true);
+            }
+        } else if (Boolean.TRUE.equals(var.isContainer)) {
+            var.vendorExtensions.put("x-projection-default", true);
+        } else if (Boolean.TRUE.equals(var.isEnum)) {
+            // inner enums serialize to their value, which toString returns
+            String write = "String".equals(var.datatype) ? "x-projection-text" : "x-projection-default";
+            var.vendorExtensions.put(write, true);
+        } else if (isProjectedModel(objects, var.datatype)) {
+            var.vendorExtensions.put("x-projection-model", var.datatype);
+        } else if (isPlainString(var)) {
+            var.vendorExtensions.put("x-projection-string", true);
+        } else if (Boolean.TRUE.equals(var.isBoolean)) {
+            var.vendorExtensions.put("x-projection-boolean", true);
+        } else if (Boolean.TRUE.equals(var.isInteger) || Boolean.TRUE.equals(var.isLong)
+                || Boolean.TRUE.equals(var.isFloat) || Boolean.TRUE.equals(var.isDouble)
+                || "BigDecimal".equals(var.datatype)) {
+            var.vendorExtensions.put("x-projection-number", true);
+        } else {
+            var.vendorExtensions.put("x-projection-default", true);
+        }
+    }
+
+    private boolean isPlainString(CodegenProperty property) {
+        return Boolean.TRUE.equals(property.isString) && !Boolean.TRUE.equals(property.isEnum)
+                && "String".equals(property.datatype);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean isProjectedModel(Map<String, Object> objects, String datatype) {
+        Map<String, Object> objectMap = (Map<String, Object>) objects.get(datatype);
+        if (objectMap == null) {
+            return false;
+        }
+
+        // outer enums have no projection, they are written by their serializer
+        List<Object> models = (List<Object>) objectMap.get("models");
+        return models.stream().map(model -> (CodegenModel) ((Map<String, Object>) model).get("model"))
+                .noneMatch(model -> model.isEnum);
+    }
+
+    /**
+     * Builds the Java expression used by the generated sample builders to populate the given property. The spec
+     * {@code example} wins over the property default; {@code null} means the field keeps its default value. Types
+     * are fully qualified because the builders are generated outside the model package.
+     */
+    /* package */ String sampleValue(String classname, CodegenProperty property, Map<String, Object> objects) {
+        String example = property.example;
+        if (Boolean.TRUE.equals(property.isListContainer)) {
+            String item = property.items == null ? null : sampleValue(classname, property.items, objects);
+            return item == null ? null : "java.util.Collections.singletonList(" + item + ")";
+        } else if (Boolean.TRUE.equals(property.isMapContainer)) {
+            String item = property.items == null ? null : sampleValue(classname, property.items, objects);
+            return item == null ? null : "java.util.Collections.singletonMap(\"key\", " + item + ")";
+        } else if (Boolean.TRUE.equals(property.isEnum)) {
+            String enumType = qualifiedModelName(classname) + "." + property.datatypeWithEnum;
+            return example == null ? enumType + ".values()[0]" : enumType + ".fromValue(" + quote(example) + ")";
+        } else if (objects.containsKey(property.datatype)) {
+            return "depth < MAX_DEPTH ? sample" + property.datatype + "(depth + 1) : null";
+        }
+
+        if (example == null && !"null".equals(property.defaultValue)) {
+            return null;
+        }
+        try {
+            if ("BigDecimal".equals(property.datatype)) {
+                // plain numbers are flagged as floats although they map to BigDecimal
+                return "new java.math.BigDecimal("
+                        + quote(example == null ? "1" : new BigDecimal(example).toString()) + ")";
+            } else if (Boolean.TRUE.equals(property.isString)) {
+                return quote(example == null ? property.baseName : example);
+            } else if (Boolean.TRUE.equals(property.isBoolean)) {
+                return String.valueOf(Boolean.valueOf(example));
+            } else if (Boolean.TRUE.equals(property.isInteger)) {
+                return String.valueOf(example == null ? 1 : Integer.parseInt(example));
+            } else if (Boolean.TRUE.equals(property.isLong)) {
+                return (example == null ? 1L : Long.parseLong(example)) + "L";
+            } else if (Boolean.TRUE.equals(property.isFloat)) {
+                return (example == null ? 1f : Float.parseFloat(example)) + "f";
+            } else if (Boolean.TRUE.equals(property.isDouble)) {
+                return (example == null ? 1d : Double.parseDouble(example)) + "d";
+            } else if ("LocalDate".equals(property.datatype)) {
+                return "java.time.LocalDate.parse(" + quote(example == null ? "2020-01-01" : example) + ")";
+            } else if ("OffsetDateTime".equals(property.datatype)) {
+                return "java.time.OffsetDateTime.parse("
+                        + quote(example == null ? "2020-01-01T00:00:00Z" : example) + ")";
+            } else if ("UUID".equals(property.datatype)) {
+                return "java.util.UUID.fromString("
+                        + quote(example == null ? "00000000-0000-0000-0000-000000000000" : example) + ")";
+            }
+        } catch (IllegalArgumentException exception) {
+            // example does not match the declared type, leave the field with its default value
+        }
+
+        return null;
+    }
+
+    private String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n").replace("\r", "\\r")
+                + "\"";
+    }
+
     private static class Endpoint {
         public String operationIdUpperSnakeCase;
         public String path;
@@ -294,6 +836,28 @@ public class JavaSpringCodegen extends SpringCodegen {
         }
     }
 
+    private static class LoadTestRequest {
+        public String name;
+        public String method;
+        public String path;
+        public String pathRegex;
+        public int templatedSegments;
+        public List<LoadTestHeader> headers = new ArrayList<>();
+        public String body;
+        public int status;
+        public String response;
+    }
+
+    private static class LoadTestHeader {
+        public String name;
+        public String value;
+
+        LoadTestHeader(String name, String value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
     public void setIndexDefinitions(Map<String, List<String>> ignoredIndexDefinitions) {
         this.ignoredIndexDefinitions = ignoredIndexDefinitions;
     }
@@ -0,0 +1,375 @@
+package com.tools.plugin.swagger.codegen;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.HdrHistogram.Histogram;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.MethodValidationInterceptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.codegen.DefaultGenerator;
+import io.swagger.codegen.config.CodegenConfigurator;
+
+/**
+ * Generates sources from the specs in {@code src/test/resources/generation} and compiles them against the test
+ * classpath.
+ */
+public class JavaSpringCodegenGenerationTest {
+	private static final String MODEL_PACKAGE = "com.example.model";
+	private static final String API_PACKAGE = "com.example.api";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void generatesCompilableSourcesWithoutOptions() throws Exception {
+		File output = generate("widgets.yaml", Collections.emptyMap());
+
+		compile(output);
+
+		assertThat(new File(output, "com/example/model/Widget.java")).exists();
+		assertThat(new File(output, "com/example/api/WidgetsApi.java")).exists();
+	}
+
+	@Test
+	public void generatesBenchmarksOutsideTheModelSources() throws Exception {
+		File output = generate("widgets.yaml", options("generateBenchmarks", true));
+		File benchmarks = new File(output.getParentFile(), output.getName() + "-jmh");
+
+		assertThat(javaFiles(output)).noneMatch(name -> name.contains("Benchmark"));
+		assertThat(new File(benchmarks, "com/example/model/benchmark/ModelBenchmarks.java")).exists();
+
+		ClassLoader classLoader = compile(output, benchmarks);
+
+		String benchmarkList;
+		try (InputStream in = classLoader.getResourceAsStream("META-INF/BenchmarkList")) {
+			benchmarkList = new String(IOUtils.toByteArray(in), StandardCharsets.UTF_8);
+		}
+		assertThat(benchmarkList).contains("ModelBenchmarks.WidgetBenchmark").doesNotContain("ColourBenchmark");
+
+		Class<?> benchmarkClass = classLoader.loadClass("com.example.model.benchmark.ModelBenchmarks$WidgetBenchmark");
+		Object benchmark = benchmarkClass.newInstance();
+		benchmarkClass.getMethod("setup").invoke(benchmark);
+		Object sample = classLoader.loadClass("com.example.model.benchmark.ModelBenchmarks").getMethod("sampleWidget")
+				.invoke(null);
+		assertThat(benchmarkClass.getMethod("deserialize").invoke(benchmark)).isEqualTo(sample);
+	}
+
+	@Test
+	public void projectsResponsesOnTheFieldsParameter() throws Exception {
+		File output = generate("widgets.yaml", options("fieldProjection", true));
+		File controller = widgetsController();
+		ClassLoader classLoader = compile(output, controller);
+
+		assertThat(javaFiles(output)).noneMatch(name -> name.matches(".*/model/\\w+Projection\\.java"));
+		Class<?> controllerClass = classLoader.loadClass("com.example.WidgetsController");
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(controllerClass.newInstance())
+				.setControllerAdvice(classLoader.loadClass(API_PACKAGE + ".FieldProjectionAdvice").newInstance())
+				.build();
+
+		assertThat(getJson(mockMvc, "/widgets/1?fields=name,count,status"))
+				.isEqualTo("{\"name\":\"sprocket\",\"count\":3,\"status\":\"sold\"}");
+		assertThat(getJson(mockMvc, "/widgets/1?fields=price,tags&fields=dimensions"))
+				.isEqualTo("{\"price\":9.99,\"tags\":[\"a\"],\"dimensions\":{\"width\":2,\"height\":1.5}}");
+		assertThat(getJson(mockMvc, "/widgets/1"))
+				.isEqualTo(new ObjectMapper().writeValueAsString(controllerClass.getField("WIDGET").get(null)));
+		assertThat(classLoader.loadClass("com.example.model.ModelProjections$WidgetProjection").getFields()).isEmpty();
+	}
+
+	@Test
+	public void rejectsInvalidBatchesWithBadRequest() throws Exception {
+		File output = generate("widgets.yaml", options("fieldProjection", true));
+		ClassLoader classLoader = compile(output, widgetsController());
+
+		Class<?> apiClass = classLoader.loadClass(API_PACKAGE + ".WidgetsApi");
+		Class<?> controllerClass = classLoader.loadClass("com.example.WidgetsController");
+		assertThat(apiClass.getField("CREATE_WIDGET_BATCH_MAX_SIZE").get(null)).isEqualTo(2);
+
+		ProxyFactory proxyFactory = new ProxyFactory(controllerClass.newInstance());
+		proxyFactory.setProxyTargetClass(true);
+		proxyFactory.addAdvice(new MethodValidationInterceptor());
+		MockMvc mockMvc = MockMvcBuilders.standaloneSetup(proxyFactory.getProxy(classLoader))
+				.setControllerAdvice(classLoader.loadClass(API_PACKAGE + ".BatchValidationAdvice").newInstance())
+				.build();
+		AtomicInteger calls = (AtomicInteger) controllerClass.getField("BATCH_CALLS").get(null);
+
+		String item = "{\"X-Request-Id\":\"r1\",\"body\":{\"name\":\"sprocket\"}}";
+		MockHttpServletResponse oversized = postJson(mockMvc, "/widgets/batch/createWidget",
+				"[" + item + "," + item + "," + item + "]");
+		assertThat(oversized.getStatus()).isEqualTo(400);
+		assertThat(oversized.getContentAsString()).contains("between 0 and 2");
+
+		MockHttpServletResponse invalidBody = postJson(mockMvc, "/widgets/batch/createWidget",
+				"[" + item + ",{\"X-Request-Id\":\"r2\",\"body\":{}}]");
+		assertThat(invalidBody.getStatus()).isEqualTo(400);
+		assertThat(invalidBody.getContentAsString()).contains("[1].body.name");
+
+		MockHttpServletResponse missingHeader = postJson(mockMvc, "/widgets/batch/createWidget",
+				"[{\"body\":{\"name\":\"sprocket\"}}]");
+		assertThat(missingHeader.getStatus()).isEqualTo(400);
+		assertThat(missingHeader.getContentAsString()).contains("[0].xRequestId");
+		assertThat(calls.get()).isZero();
+
+		assertThat(postJson(mockMvc, "/widgets/batch/createWidget", "[" + item + "," + item + "]").getStatus())
+				.isEqualTo(200);
+		assertThat(calls.get()).isEqualTo(1);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void runsLoadTestAgainstGeneratedStub() throws Throwable {
+		File output = generate("widgets.yaml", options("generateLoadTest", true, "loadTestStub", true));
+		File loadTest = new File(output.getParentFile(), output.getName() + "-loadtest");
+
+		assertThat(javaFiles(output)).noneMatch(name -> name.contains("LoadTest"));
+		ClassLoader classLoader = compile(output, loadTest);
+
+		Class<?> harnessClass = classLoader.loadClass(API_PACKAGE + ".loadtest.LoadTestHarness");
+		Method targetsMethod = harnessClass.getDeclaredMethod("targets");
+		targetsMethod.setAccessible(true);
+		List<Object> targets = (List<Object>) targetsMethod.invoke(null);
+		Class<?> targetClass = classLoader.loadClass(API_PACKAGE + ".loadtest.LoadTestHarness$Target");
+		Field nameField = targetClass.getDeclaredField("name");
+		nameField.setAccessible(true);
+		List<Object> names = new ArrayList<>();
+		for (Object target : targets) {
+			names.add(nameField.get(target));
+		}
+		assertThat(names).contains("WidgetsApi.getWidget", "WidgetsApi.searchWidgets")
+				.doesNotContain("WidgetsApi.importWidgets", "WidgetsApi.updateWidget");
+
+		Class<?> stubClass = classLoader.loadClass(API_PACKAGE + ".loadtest.LoadTestStub");
+		Object stub = stubClass.getMethod("start", int.class, List.class).invoke(null, 0, targets);
+		try {
+			String url = "http://localhost:" + stubClass.getMethod("port").invoke(stub);
+			try (InputStream in = new URL(url + "/widgets/search").openStream()) {
+				assertThat(new String(IOUtils.toByteArray(in), StandardCharsets.UTF_8)).startsWith("[");
+			}
+
+			Method run = harnessClass.getDeclaredMethod("run", String.class, List.class, int.class, int.class,
+					int.class);
+			run.setAccessible(true);
+			assertThatThrownBy(() -> invoke(run, null, url, targets, 0, 1, 1))
+					.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("loadtest.rate");
+			invoke(run, null, url, targets, 20, 1, 4);
+		} finally {
+			stubClass.getMethod("stop").invoke(stub);
+		}
+
+		Field errorsField = targetClass.getDeclaredField("errors");
+		errorsField.setAccessible(true);
+		Field latenciesField = targetClass.getDeclaredField("latencies");
+		latenciesField.setAccessible(true);
+		for (Object target : targets) {
+			assertThat(((AtomicLong) errorsField.get(target)).get()).as(nameField.get(target).toString()).isZero();
+			assertThat(((Histogram) latenciesField.get(target)).getTotalCount()).isPositive();
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void internsMarkedFieldsInPerFieldPools() throws Exception {
+		File output = generate("widgets.yaml", options("generateBenchmarks", true));
+		File benchmarks = new File(output.getParentFile(), output.getName() + "-jmh");
+		ClassLoader classLoader = compile(output, benchmarks);
+
+		Class<?> widgetClass = classLoader.loadClass(MODEL_PACKAGE + ".Widget");
+		ObjectMapper mapper = new ObjectMapper();
+		Object first = mapper.readValue("{\"name\": \"a\", \"supplier\": \"acme\", \"tags\": [\"blue\"]}", widgetClass);
+		Object second = mapper.readValue("{\"name\": \"a\", \"supplier\": \"acme\", \"tags\": [\"blue\"]}", widgetClass);
+
+		assertThat(widgetClass.getMethod("getSupplier").invoke(second))
+				.isSameAs(widgetClass.getMethod("getSupplier").invoke(first));
+		assertThat(((List<String>) widgetClass.getMethod("getTags").invoke(second)).get(0))
+				.isSameAs(((List<String>) widgetClass.getMethod("getTags").invoke(first)).get(0));
+		assertThat(widgetClass.getMethod("getName").invoke(second))
+				.isNotSameAs(widgetClass.getMethod("getName").invoke(first));
+
+		Map<String, ?> pools = (Map<String, ?>) classLoader.loadClass(MODEL_PACKAGE + ".StringInternPool")
+				.getMethod("pools").invoke(null);
+		assertThat(pools).containsOnlyKeys("suppliers", "Widget.tags");
+		Object suppliers = pools.get("suppliers");
+		assertThat(suppliers.getClass().getMethod("hits").invoke(suppliers)).isEqualTo(1L);
+		assertThat(suppliers.getClass().getMethod("size").invoke(suppliers)).isEqualTo(1);
+
+		Class<?> benchmarkClass = classLoader
+				.loadClass("com.example.model.benchmark.InternBenchmarks$WidgetInternBenchmark");
+		Object benchmark = benchmarkClass.newInstance();
+		for (String param : Arrays.asList("values", "distinctValues")) {
+			Field field = benchmarkClass.getDeclaredField(param);
+			field.setAccessible(true);
+			field.set(benchmark, 10);
+		}
+		benchmarkClass.getMethod("setup").invoke(benchmark);
+		Object[] plain = (Object[]) benchmarkClass.getMethod("plain").invoke(benchmark);
+		Object[] interned = (Object[]) benchmarkClass.getMethod("interned").invoke(benchmark);
+		Object[] internedAgain = (Object[]) benchmarkClass.getMethod("interned").invoke(benchmark);
+
+		assertThat(interned).containsExactly(plain);
+		assertThat(widgetClass.getMethod("getSupplier").invoke(internedAgain[3]))
+				.isSameAs(widgetClass.getMethod("getSupplier").invoke(interned[3]));
+		assertThat(widgetClass.getMethod("getSupplier").invoke(plain[3]))
+				.isNotSameAs(widgetClass.getMethod("getSupplier").invoke(interned[3]));
+	}
+
+	private Object invoke(Method method, Object target, Object... args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException exception) {
+			throw exception.getCause();
+		}
+	}
+
+	private File widgetsController() throws IOException {
+		return writeSource("com.example.WidgetsController", "package com.example;\n"
+				+ "import java.math.BigDecimal;\n"
+				+ "import java.util.Arrays;\n"
+				+ "import java.util.List;\n"
+				+ "import java.util.concurrent.CompletableFuture;\n"
+				+ "import java.util.concurrent.atomic.AtomicInteger;\n"
+				+ "import org.springframework.http.ResponseEntity;\n"
+				+ "import org.springframework.web.bind.annotation.RestController;\n"
+				+ "import com.example.api.WidgetsApi;\n"
+				+ "import com.example.model.*;\n"
+				+ "@RestController\n"
+				+ "public class WidgetsController implements WidgetsApi {\n"
+				+ "  public static final Widget WIDGET = new Widget().withName(\"sprocket\").withCount(3)\n"
+				+ "      .withPrice(new BigDecimal(\"9.99\")).withStatus(Widget.StatusEnum.SOLD).withTags(Arrays.asList(\"a\"))\n"
+				+ "      .withDimensions(new WidgetDimensions().withWidth(2L).withHeight(1.5));\n"
+				+ "  public static final AtomicInteger BATCH_CALLS = new AtomicInteger();\n"
+				+ "  public CompletableFuture<ResponseEntity<Widget>> getWidget(String id, List<String> fields) {\n"
+				+ "    return CompletableFuture.completedFuture(ResponseEntity.ok(WIDGET));\n"
+				+ "  }\n"
+				+ "  public CompletableFuture<ResponseEntity<Widget>> updateWidget(String id, Widget body) {\n"
+				+ "    return CompletableFuture.completedFuture(ResponseEntity.ok(body));\n"
+				+ "  }\n"
+				+ "  public CompletableFuture<ResponseEntity<Widget>> createWidget(String xRequestId, Widget body) {\n"
+				+ "    return CompletableFuture.completedFuture(ResponseEntity.ok(body));\n"
+				+ "  }\n"
+				+ "  public CompletableFuture<ResponseEntity<List<Widget>>> searchWidgets() {\n"
+				+ "    return CompletableFuture.completedFuture(ResponseEntity.ok(Arrays.asList(WIDGET)));\n"
+				+ "  }\n"
+				+ "  public CompletableFuture<ResponseEntity<Void>> importWidgets() {\n"
+				+ "    return CompletableFuture.completedFuture(ResponseEntity.noContent().build());\n"
+				+ "  }\n"
+				+ "  public CompletableFuture<ResponseEntity<List<BatchItemResult<Widget>>>> createWidgetBatch(\n"
+				+ "      List<CreateWidgetBatchItem> items) {\n"
+				+ "    BATCH_CALLS.incrementAndGet();\n"
+				+ "    return CompletableFuture.completedFuture(ResponseEntity.ok(null));\n"
+				+ "  }\n"
+				+ "}\n");
+	}
+
+	private String getJson(MockMvc mockMvc, String uri) throws Exception {
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(uri)).andReturn();
+		return mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andReturn().getResponse()
+				.getContentAsString();
+	}
+
+	private MockHttpServletResponse postJson(MockMvc mockMvc, String uri, String json) throws Exception {
+		MvcResult result = mockMvc
+				.perform(MockMvcRequestBuilders.post(uri).contentType(MediaType.APPLICATION_JSON).content(json))
+				.andReturn();
+		return result.getRequest().isAsyncStarted()
+				? mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andReturn().getResponse()
+				: result.getResponse();
+	}
+
+	/* package */ File writeSource(String className, String source) throws IOException {
+		File sourceRoot = folder.newFolder();
+		File file = new File(sourceRoot, className.replace('.', '/') + ".java");
+		Files.createDirectories(file.getParentFile().toPath());
+		Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+		return sourceRoot;
+	}
+
+	/* package */ Map<String, Object> options(Object... namesAndValues) {
+		Map<String, Object> options = new HashMap<>();
+		for (int i = 0; i < namesAndValues.length; i += 2) {
+			options.put((String) namesAndValues[i], namesAndValues[i + 1]);
+		}
+		return options;
+	}
+
+	/* package */ List<String> javaFiles(File sourceRoot) throws IOException {
+		try (Stream<Path> paths = Files.walk(sourceRoot.toPath())) {
+			return paths.map(Path::toString).filter(path -> path.endsWith(".java")).collect(Collectors.toList());
+		}
+	}
+
+	/* package */ File generate(String spec, Map<String, Object> options) throws IOException, URISyntaxException {
+		File output = folder.newFolder();
+		CodegenConfigurator configurator = new CodegenConfigurator();
+		configurator.setLang("toolkit-java-spring");
+		configurator.setInputSpec(new File(getClass().getResource("/generation/" + spec).toURI()).getPath());
+		configurator.setOutputDir(output.getPath());
+		configurator.setModelPackage(MODEL_PACKAGE);
+		configurator.setApiPackage(API_PACKAGE);
+		configurator.addAdditionalProperty("interfaceOnly", true);
+		options.forEach(configurator::addAdditionalProperty);
+
+
+		new DefaultGenerator().opts(configurator.toClientOptInput()).generate();
+		return output;
+	}
+
+	/* package */ ClassLoader compile(File... sourceRoots) throws IOException {
+		File classes = folder.newFolder();
+		List<File> sources = new ArrayList<>();
+		for (File sourceRoot : sourceRoots) {
+			javaFiles(sourceRoot).forEach(path -> sources.add(new File(path)));
+		}
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		StringWriter diagnostics = new StringWriter();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+			boolean compiled = compiler.getTask(diagnostics, fileManager, null,
+					Arrays.asList("-d", classes.getPath(), "-classpath", System.getProperty("java.class.path"),
+							"-source", "8", "-target", "8", "-nowarn"),
+					null, fileManager.getJavaFileObjectsFromFiles(sources)).call();
+			assertThat(compiled).as(diagnostics.toString()).isTrue();
+		}
+
+		return new URLClassLoader(new URL[] { classes.toURI().toURL() }, getClass().getClassLoader());
+	}
+}
@@ -2,7 +2,10 @@ package com.tools.plugin.swagger.codegen;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -10,10 +13,22 @@ import java.util.List;
 import java.util.Map;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.swagger.codegen.CodegenModel;
+import io.swagger.codegen.CodegenProperty;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+import io.swagger.models.parameters.QueryParameter;
 
 public class JavaSpringCodegenTest {
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	private Map<String, List<String>> testIndexes = new HashMap<>();
 
 	@Before
@@ -37,4 +52,138 @@ public class JavaSpringCodegenTest {
 
 		codegen.checkIndexedClasses(singleton("Widget"));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void test_sample_value_uses_example() {
+		CodegenProperty property = new CodegenProperty();
+		property.isString = true;
+		property.datatype = "String";
+		property.example = "say \"hi\"";
+
+		String value = new JavaSpringCodegen().sampleValue("Widget", property, new HashMap<>());
+
+		assertThat(value).isEqualTo("\"say \\\"hi\\\"\"");
+	}
+
+	@Test
+	public void test_sample_value_keeps_default_without_example() {
+		CodegenProperty property = new CodegenProperty();
+		property.isInteger = true;
+		property.datatype = "Integer";
+		property.defaultValue = "5";
+
+		assertThat(new JavaSpringCodegen().sampleValue("Widget", property, new HashMap<>())).isNull();
+	}
+
+	@Test
+	public void test_sample_value_references_generated_model() {
+		CodegenProperty property = new CodegenProperty();
+		property.datatype = "Gadget";
+		Map<String, Object> objects = new HashMap<>();
+		objects.put("Gadget", new HashMap<>());
+
+		assertThat(new JavaSpringCodegen().sampleValue("Widget", property, objects))
+				.isEqualTo("depth < MAX_DEPTH ? sampleGadget(depth + 1) : null");
+	}
+
+	@Test
+	public void test_fields_parameter_added_to_marked_operations_once() {
+		Operation marked = new Operation();
+		marked.setVendorExtension("x-field-projection", true);
+		Operation unmarked = new Operation();
+		Swagger swagger = new Swagger().path("/widgets", new Path().get(marked).post(unmarked));
+		JavaSpringCodegen codegen = new JavaSpringCodegen();
+
+		codegen.addFieldsParameters(swagger);
+		codegen.addFieldsParameters(swagger);
+
+		assertThat(marked.getParameters()).hasSize(1);
+		QueryParameter fields = (QueryParameter) marked.getParameters().get(0);
+		assertThat(fields.getName()).isEqualTo("fields");
+		assertThat(fields.getCollectionFormat()).isEqualTo("csv");
+		assertThat(unmarked.getParameters()).isEmpty();
+	}
+
+	@Test
+	public void test_tool_folder_defaults_to_sibling_of_resolved_output_folder() throws Exception {
+		File output = temporaryFolder.newFolder("generated");
+		JavaSpringCodegen codegen = new JavaSpringCodegen();
+		codegen.setOutputDir(output.getPath() + File.separator + ".");
+
+		assertThat(codegen.toolFolder("benchmarkFolder", "jmh", "com.example"))
+				.isEqualTo(String.join(File.separator, "..", "generated-jmh", "com", "example"));
+
+		codegen.setOutputDir(new File(output, "nested").getPath() + File.separator + "..");
+		assertThat(codegen.toolFolder("benchmarkFolder", "jmh", "com.example"))
+				.isEqualTo(String.join(File.separator, "..", "generated-jmh", "com", "example"));
+
+		codegen.setOutputDir(File.separator);
+		assertThatThrownBy(() -> codegen.toolFolder("benchmarkFolder", "jmh", "com.example"))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("benchmarkFolder");
+	}
+
+	@Test
+	public void test_batch_path_drops_path_variables() {
+		JavaSpringCodegen codegen = new JavaSpringCodegen();
+
+		assertThat(codegen.batchPath("/stores/{storeId}/widgets/{id}", "getWidget"))
+				.isEqualTo("/stores/widgets/batch/getWidget");
+		assertThat(codegen.batchPath("/{id}", "getRoot")).isEqualTo("/batch/getRoot");
+	}
+
+	@Test
+	public void test_batch_max_size_must_be_positive_integer() {
+		JavaSpringCodegen codegen = new JavaSpringCodegen();
+
+		assertThat(codegen.batchMaxSize("getWidget", 50)).isEqualTo(50);
+		assertThat(codegen.batchMaxSize("getWidget", "20")).isEqualTo(20);
+		assertThatThrownBy(() -> codegen.batchMaxSize("getWidget", "many"))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("getWidget");
+		assertThatThrownBy(() -> codegen.batchMaxSize("getWidget", 0))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("getWidget");
+	}
+
+	@Test
+	public void test_path_regex_matches_path_variables() {
+		String regex = new JavaSpringCodegen().pathRegex("/stores/{storeId}/widgets.json");
+
+		assertThat("/stores/42/widgets.json").matches(regex);
+		assertThat("/stores/42/widgets-json").doesNotMatch(regex);
+		assertThat("/stores/42/7/widgets.json").doesNotMatch(regex);
+	}
+
+	@Test
+	public void test_only_string_fields_are_interned() {
+		CodegenProperty country = new CodegenProperty();
+		country.baseName = "country";
+		country.isString = true;
+		country.vendorExtensions = new HashMap<>();
+		country.vendorExtensions.put("x-intern", true);
+		CodegenProperty currency = new CodegenProperty();
+		currency.baseName = "currency";
+		currency.isString = true;
+		currency.vendorExtensions = new HashMap<>();
+		currency.vendorExtensions.put("x-intern", "currencies");
+		CodegenProperty region = new CodegenProperty();
+		region.baseName = "region";
+		region.isString = true;
+		region.vendorExtensions = new HashMap<>();
+		region.vendorExtensions.put("x-intern", "regions\"); System.exit(1); //\\");
+		CodegenProperty count = new CodegenProperty();
+		count.isInteger = true;
+		count.vendorExtensions = new HashMap<>();
+		count.vendorExtensions.put("x-intern", true);
+		CodegenModel model = new CodegenModel();
+		model.classname = "Address";
+		model.vendorExtensions = new HashMap<>();
+		model.vars = asList(country, currency, region, count);
+
+		assertThat(new JavaSpringCodegen().markInternedVariables(model)).isTrue();
+		assertThat(country.vendorExtensions).containsEntry("x-intern-deserializer", "using")
+				.containsEntry("x-intern-pool", "\"Address.country\"");
+		assertThat(currency.vendorExtensions).containsEntry("x-intern-pool", "\"currencies\"");
+		assertThat(region.vendorExtensions).containsEntry("x-intern-pool", "\"regions\\\"); System.exit(1); //\\\\\"");
+		assertThat(count.vendorExtensions).doesNotContainKey("x-intern-deserializer").doesNotContainKey("x-intern-pool");
+		assertThat(model.vendorExtensions).containsEntry("x-interned", true);
+	}
+}